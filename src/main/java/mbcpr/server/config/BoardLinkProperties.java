@@ -0,0 +1,58 @@
+package mbcpr.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 보드 WebSocket 링크 설정 (mbcpr.board-link.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "mbcpr.board-link")
+public class BoardLinkProperties {
+
+    public static final String DEFAULT_BOARD_CLASS = "default";
+
+    private Deflate deflate = new Deflate();
+
+    // 연결이 끊긴 보드의 분석 상태와 SSE 스트림을 보관하는 시간
+    private Duration reconnectGracePeriod = Duration.ofSeconds(10);
+
+    // 만료된 상태를 정리하는 주기, 유예 시간보다 짧게 설정 (@Scheduled 에서 직접 참조)
+    private Duration reconnectSweepInterval = Duration.ofSeconds(1);
+
+    // 보드 종류(접속 URI 의 class 파라미터)별 버퍼 한도
+    private Map<String, Limits> limits = new HashMap<>(Map.of(DEFAULT_BOARD_CLASS, new Limits()));
+
+    public Limits limitsFor(String boardClass) {
+        Limits classLimits = limits.get(boardClass);
+        if (classLimits != null) {
+            return classLimits;
+        }
+        return limits.getOrDefault(DEFAULT_BOARD_CLASS, new Limits());
+    }
+
+    public int maxMessageSizeLimit() {
+        return limits.values().stream()
+                .mapToInt(Limits::getMessageSizeLimit)
+                .max()
+                .orElse(new Limits().getMessageSizeLimit());
+    }
+
+    @Data
+    public static class Deflate {
+        private boolean enabled = true;
+        private boolean serverNoContextTakeover = false; // 서버 → 보드 방향 압축 사전 재사용 안 함
+        private boolean clientNoContextTakeover = false; // 보드 → 서버 방향 압축 사전 재사용 안 함
+    }
+
+    @Data
+    public static class Limits {
+        private int messageSizeLimit = 8192;
+        private int sendBufferSizeLimit = 8192;
+        private int sendTimeLimit = 5000; // ms, 한 번의 전송이 이보다 오래 막히면 연결 종료
+    }
+}
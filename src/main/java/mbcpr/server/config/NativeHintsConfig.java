@@ -0,0 +1,19 @@
+package mbcpr.server.config;
+
+import mbcpr.server.dto.ProcessedSensorData;
+import mbcpr.server.dto.SensorData;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AOT / native-image 용 리플렉션 힌트
+ * 서비스에서 직접 생성한 ObjectMapper 로 (역)직렬화하는 DTO 는 AOT 가 추론하지 못하므로 명시적으로 등록
+ * (컨트롤러의 요청/응답 DTO 는 AOT 가 @RequestBody 와 반환 타입에서 추론)
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        SensorData.class,            // 보드 WebSocket 메시지 (BoardCommunicationService)
+        ProcessedSensorData.class    // SSE sensor-data 이벤트 (CprCommunicationService)
+})
+public class NativeHintsConfig {
+}
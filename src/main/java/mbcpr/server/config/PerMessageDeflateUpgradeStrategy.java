@@ -0,0 +1,129 @@
+package mbcpr.server.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.Extension;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.socket.server.HandshakeFailureException;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * permessage-deflate 협상 조정
+ * 컨테이너(Tomcat)는 클라이언트가 보낸 Sec-WebSocket-Extensions 헤더를 그대로 보고 협상하므로,
+ * 업그레이드 직전에 헤더를 고쳐서 압축 사용 여부와 context takeover 옵션을 적용한다.
+ */
+public class PerMessageDeflateUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+    static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+    static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+
+    private static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+
+    private final BoardLinkProperties.Deflate deflate;
+
+    public PerMessageDeflateUpgradeStrategy(BoardLinkProperties.Deflate deflate) {
+        this.deflate = deflate;
+    }
+
+    @Override
+    protected void upgradeInternal(ServerHttpRequest request, ServerHttpResponse response,
+                                   @Nullable String selectedProtocol, List<Extension> selectedExtensions,
+                                   Endpoint endpoint) throws HandshakeFailureException {
+
+        Assert.isInstanceOf(ServletServerHttpRequest.class, request, "ServletServerHttpRequest required");
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        ServerHttpRequest rewritten = new ServletServerHttpRequest(new ExtensionsRewritingRequest(servletRequest));
+
+        List<Extension> extensions = selectedExtensions;
+        if (!deflate.isEnabled()) {
+            extensions = selectedExtensions.stream()
+                    .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+                    .toList();
+        }
+
+        super.upgradeInternal(rewritten, response, selectedProtocol, extensions, endpoint);
+    }
+
+    String rewriteExtensions(String header) {
+        List<String> offers = new ArrayList<>();
+        for (String offer : header.split(",")) {
+            String trimmed = offer.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String name = trimmed.split(";", 2)[0].trim();
+            if (PERMESSAGE_DEFLATE.equalsIgnoreCase(name)) {
+                if (!deflate.isEnabled()) {
+                    continue;
+                }
+                if (deflate.isServerNoContextTakeover()) {
+                    trimmed = appendParameter(trimmed, SERVER_NO_CONTEXT_TAKEOVER);
+                }
+                if (deflate.isClientNoContextTakeover()) {
+                    trimmed = appendParameter(trimmed, CLIENT_NO_CONTEXT_TAKEOVER);
+                }
+            }
+            offers.add(trimmed);
+        }
+        return String.join(", ", offers);
+    }
+
+    // 같은 파라미터가 두 번 들어가면 협상이 실패하므로 없을 때만 추가
+    private String appendParameter(String offer, String parameter) {
+        String[] parts = offer.split(";");
+        for (int i = 1; i < parts.length; i++) {
+            String parameterName = parts[i].split("=", 2)[0].trim();
+            if (parameter.equalsIgnoreCase(parameterName)) {
+                return offer;
+            }
+        }
+        return offer + "; " + parameter;
+    }
+
+    private class ExtensionsRewritingRequest extends HttpServletRequestWrapper {
+
+        ExtensionsRewritingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (!EXTENSIONS_HEADER.equalsIgnoreCase(name)) {
+                return super.getHeader(name);
+            }
+            List<String> values = rewrittenValues();
+            return values.isEmpty() ? null : String.join(", ", values);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!EXTENSIONS_HEADER.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+            return Collections.enumeration(rewrittenValues());
+        }
+
+        private List<String> rewrittenValues() {
+            List<String> values = new ArrayList<>();
+            Enumeration<String> original = super.getHeaders(EXTENSIONS_HEADER);
+            while (original != null && original.hasMoreElements()) {
+                String value = rewriteExtensions(original.nextElement());
+                if (!value.isEmpty()) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+    }
+}
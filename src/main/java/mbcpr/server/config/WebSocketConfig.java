@@ -1,22 +1,46 @@
 package mbcpr.server.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 import mbcpr.server.service.BoardCommunicationService;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @EnableWebSocket
+@EnableConfigurationProperties(BoardLinkProperties.class)
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketConfigurer {
 
+    // Tomcat WsServerContainer 의 기본 텍스트 버퍼 크기 (org.apache.tomcat.websocket.server.Constants)
+    private static final String TOMCAT_TEXT_BUFFER_SIZE_PARAM = "org.apache.tomcat.websocket.textBufferSize";
+
     private final BoardCommunicationService boardCommunicationService;
+    private final BoardLinkProperties boardLinkProperties;
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(boardCommunicationService, "/board")
+                .setHandshakeHandler(new DefaultHandshakeHandler(
+                        new PerMessageDeflateUpgradeStrategy(boardLinkProperties.getDeflate())))
                 .setAllowedOrigins("*");
     }
-}
\ No newline at end of file
+
+    /**
+     * 수신 버퍼는 연결 전에 잡히므로 컨테이너 기본값을 보드 종류별 한도 중 최대값으로 맞추고,
+     * 종류별 한도는 BoardCommunicationService 에서 적용
+     */
+    @Bean
+    public static WebServerFactoryCustomizer<TomcatServletWebServerFactory> boardTextBufferCustomizer(
+            BoardLinkProperties boardLinkProperties) {
+        String textBufferSize = String.valueOf(boardLinkProperties.maxMessageSizeLimit());
+        return factory -> factory.addContextCustomizers(
+                context -> context.addParameter(TOMCAT_TEXT_BUFFER_SIZE_PARAM, textBufferSize));
+    }
+}
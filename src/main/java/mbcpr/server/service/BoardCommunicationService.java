@@ -1,5 +1,6 @@
 package mbcpr.server.service;
 
+import mbcpr.server.config.BoardLinkProperties;
 import mbcpr.server.dto.SensorData;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,6 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -18,16 +18,22 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class BoardCommunicationService extends TextWebSocketHandler {
 
-    private final Map<String, WebSocketSession> boardSessions = new ConcurrentHashMap<>();
+    private final Map<String, BoardLink> boardSessions = new ConcurrentHashMap<>();
     private final Map<String, Long> lastPingResponse = new ConcurrentHashMap<>();
+    private final Map<String, Long> disconnectedAt = new ConcurrentHashMap<>(); // 재연결 대기 중인 보드
+    // 연결/해제/만료 처리가 서로 끼어들지 않도록 boardSessions, disconnectedAt 과 분석 상태 변경은 이 잠금 안에서 처리
+    private final Object handoffLock = new Object();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final SensorDataProcessingService sensorDataProcessingService;
     private final CprCommunicationService cprCommunicationService;
+    private final BoardLinkProperties boardLinkProperties;
 
     public BoardCommunicationService(SensorDataProcessingService sensorDataProcessingService,
-                                     CprCommunicationService cprCommunicationService) {
+                                     CprCommunicationService cprCommunicationService,
+                                     BoardLinkProperties boardLinkProperties) {
         this.sensorDataProcessingService = sensorDataProcessingService;
         this.cprCommunicationService = cprCommunicationService;
+        this.boardLinkProperties = boardLinkProperties;
     }
 
     @Override
@@ -39,13 +45,44 @@ public class BoardCommunicationService extends TextWebSocketHandler {
 
         String serialNumber = getSerialNumberFromSession(session);
         if (serialNumber != null) {
-            boardSessions.put(serialNumber, session);
-            lastPingResponse.put(serialNumber, System.currentTimeMillis());
-            log.info("보드 연결 성공: {}", serialNumber);
+            String boardClass = getQueryParam(session, "class");
+            if (boardClass == null) {
+                boardClass = BoardLinkProperties.DEFAULT_BOARD_CLASS;
+            }
+            BoardLinkProperties.Limits limits = boardLinkProperties.limitsFor(boardClass);
+            session.setTextMessageSizeLimit(limits.getMessageSizeLimit());
+
+            BoardLink link = new BoardLink(session, serialNumber, limits);
+            BoardLink previous;
+            boolean reconnected;
+            boolean resumeRun;
+            synchronized (handoffLock) {
+                previous = boardSessions.put(serialNumber, link);
+                lastPingResponse.put(serialNumber, System.currentTimeMillis());
+
+                // 유예 시간 안에 재연결되면 기존 분석 상태와 SSE 스트림을 그대로 이어서 사용
+                reconnected = disconnectedAt.remove(serialNumber) != null || previous != null;
+                resumeRun = reconnected && sensorDataProcessingService.isProcessingActive(serialNumber);
+                if (resumeRun) {
+                    sensorDataProcessingService.resumeProcessing(serialNumber);
+                }
+            }
+            log.info("보드 연결 성공: {} (class={}, extensions={})", serialNumber, boardClass, session.getExtensions());
 
-            // 연결 초기 메시지 전송 (동기화 적용)
-            synchronized (session) {
-                session.sendMessage(new TextMessage("CONNECTED"));
+            // 끊김이 감지되기 전에 재연결된 경우 이전 세션 정리
+            if (previous != null && previous.getSession() != session) {
+                log.info("이전 세션 교체: {} ({})", serialNumber, previous.getSession().getId());
+                previous.close();
+                closeQuietly(previous.getSession());
+            }
+
+            // 연결 초기 메시지 전송
+            link.send("CONNECTED");
+
+            if (resumeRun) {
+                resumeCommunication(serialNumber, link);
+            } else if (reconnected) {
+                log.info("보드 재연결: {}", serialNumber);
             }
         } else {
             log.error("Serial Number 누락으로 연결 거부: {}", session.getRemoteAddress());
@@ -60,6 +97,20 @@ public class BoardCommunicationService extends TextWebSocketHandler {
 
         if (serialNumber == null) return;
 
+        BoardLink link = boardSessions.get(serialNumber);
+        if (link != null) {
+            // 컨테이너 버퍼는 최대 한도로 잡혀 있으므로 보드 종류별 한도는 여기서 확인
+            if (message.getPayloadLength() > link.getLimits().getMessageSizeLimit()) {
+                log.warn("메시지 크기 초과 [{}]: {} bytes", serialNumber, message.getPayloadLength());
+                try {
+                    session.close(CloseStatus.TOO_BIG_TO_PROCESS);
+                } catch (Exception e) {
+                    log.error("연결 종료 실패: {}", serialNumber, e);
+                }
+                return;
+            }
+        }
+
         // (타임아웃 방지)
         lastPingResponse.put(serialNumber, System.currentTimeMillis());
 
@@ -84,12 +135,70 @@ public class BoardCommunicationService extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String serialNumber = getSerialNumberFromSession(session);
         if (serialNumber != null) {
-            boardSessions.remove(serialNumber);
-            lastPingResponse.remove(serialNumber);
-            log.info("보드 연결 해제됨: {}", serialNumber);
+            BoardLink link;
+            synchronized (handoffLock) {
+                link = boardSessions.get(serialNumber);
+                // 이미 새 세션으로 교체된 경우 이전 세션의 종료는 무시
+                if (link == null || link.getSession() != session) {
+                    link = null;
+                } else {
+                    boardSessions.remove(serialNumber);
+                    lastPingResponse.remove(serialNumber);
+
+                    // 분석 상태는 바로 지우지 않고 재연결 유예 시간 동안 보관
+                    disconnectedAt.put(serialNumber, System.currentTimeMillis());
+                    sensorDataProcessingService.suspendProcessing(serialNumber);
+                }
+            }
+            if (link == null) {
+                log.info("이전 세션 종료: {} ({})", serialNumber, session.getId());
+                return;
+            }
+            link.close();
+
+            log.info("보드 연결 해제됨: {} (재연결 대기 {}초)",
+                    serialNumber, boardLinkProperties.getReconnectGracePeriod().toSeconds());
         }
     }
 
+    // 보드는 재연결 시 대기 상태로 돌아오므로 진행 중이던 통신을 다시 시작
+    // (연결 처리 스레드가 막히지 않도록 결과는 기다리지 않음)
+    private void resumeCommunication(String serialNumber, BoardLink link) {
+        link.send("START").thenAccept(sent -> {
+            if (sent) {
+                log.info("보드 재연결, 통신 재개: {}", serialNumber);
+            } else {
+                log.warn("보드 재연결 후 통신 재개 실패: {}", serialNumber);
+            }
+        });
+    }
+
+    /**
+     * 재연결 유예 시간이 지난 보드의 분석 상태 정리
+     * 진행 중이던 통신이 끊긴 경우에만 SSE 연결도 종료 (그 사이 앱이 새로 연 스트림은 유지)
+     */
+    @Scheduled(fixedRateString = "${mbcpr.board-link.reconnect-sweep-interval:1s}")
+    public void sweepExpiredSessions() {
+        long expireBefore = System.currentTimeMillis() - boardLinkProperties.getReconnectGracePeriod().toMillis();
+        disconnectedAt.forEach((serialNumber, closedAt) -> {
+            if (closedAt >= expireBefore) {
+                return;
+            }
+            boolean runInterrupted;
+            synchronized (handoffLock) {
+                if (!disconnectedAt.remove(serialNumber, closedAt)) {
+                    return;
+                }
+                runInterrupted = sensorDataProcessingService.isProcessingSuspended(serialNumber);
+                sensorDataProcessingService.stopProcessing(serialNumber);
+            }
+            if (runInterrupted) {
+                cprCommunicationService.closeEmitter(serialNumber);
+            }
+            log.info("재연결 유예 시간 만료, 세션 상태 정리: {}", serialNumber);
+        });
+    }
+
     public boolean isBoardConnected(String serialNumber) {
         if (!boardSessions.containsKey(serialNumber)) {
             return false;
@@ -110,11 +219,10 @@ public class BoardCommunicationService extends TextWebSocketHandler {
         }
 
         try {
-            WebSocketSession session = boardSessions.get(serialNumber);
-            if (session.isOpen()) {
-                // 동기화 적용
-                synchronized (session) {
-                    session.sendMessage(new TextMessage("CHECK"));
+            BoardLink link = boardSessions.get(serialNumber);
+            if (link.getSession().isOpen()) {
+                if (!link.sendAndWait("CHECK")) {
+                    return false;
                 }
 
                 long startTime = System.currentTimeMillis();
@@ -130,42 +238,37 @@ public class BoardCommunicationService extends TextWebSocketHandler {
     }
 
     public boolean startCommunication(String serialNumber) {
-        WebSocketSession session = boardSessions.get(serialNumber);
-        if (session == null || !session.isOpen()) {
+        BoardLink link = boardSessions.get(serialNumber);
+        if (link == null || !link.getSession().isOpen()) {
             return false;
         }
 
-        try {
-            // 동기화 적용
-            synchronized (session) {
-                session.sendMessage(new TextMessage("START"));
-            }
-            return true;
-        } catch (IOException e) {
-            log.error("통신 시작 요청 실패: {}", serialNumber, e);
-            return false;
+        boolean sent = link.sendAndWait("START");
+        if (!sent) {
+            log.error("통신 시작 요청 실패: {}", serialNumber);
         }
+        return sent;
     }
 
     public boolean stopCommunication(String serialNumber) {
-        WebSocketSession session = boardSessions.get(serialNumber);
-        if (session == null || !session.isOpen()) {
+        BoardLink link = boardSessions.get(serialNumber);
+        if (link == null || !link.getSession().isOpen()) {
             return false;
         }
 
         try {
-            // STOP 메시지 전송 (동기화 적용)
-            synchronized (session) {
-                session.sendMessage(new TextMessage("STOP"));
+            // STOP 메시지 전송
+            if (!link.sendAndWait("STOP")) {
+                return false;
             }
             log.info("STOP 메시지 전송: {}", serialNumber);
 
             // 짧은 대기 후 EXIT 메시지 전송
             Thread.sleep(100);
 
-            // EXIT 메시지 전송 (동기화 적용)
-            synchronized (session) {
-                session.sendMessage(new TextMessage("EXIT"));
+            // EXIT 메시지 전송
+            if (!link.sendAndWait("EXIT")) {
+                return false;
             }
             log.info("EXIT 메시지 전송 (통신 종료 신호): {}", serialNumber);
 
@@ -179,36 +282,52 @@ public class BoardCommunicationService extends TextWebSocketHandler {
     @Scheduled(fixedRate = 10000)
     public void sendPingToAllBoards() {
         log.debug("모든 보드에 PING 전송");
-        boardSessions.forEach((serialNumber, session) -> {
-            if (session.isOpen()) {
-                try {
-                    // PING 전송 (동기화 적용)
-                    synchronized (session) {
-                        session.sendMessage(new TextMessage("PING"));
+        boardSessions.forEach((serialNumber, link) -> {
+            if (link.getSession().isOpen()) {
+                // 결과는 기다리지 않음. 다만 전송 중인 스레드가 없으면 이 스레드가 직접 쓰므로
+                // 막힌 보드 하나당 최대 send-time-limit 만큼 지연될 수 있음 (BoardLink 의 blocking send 타임아웃)
+                link.send("PING").thenAccept(sent -> {
+                    if (sent) {
+                        log.debug("PING 전송: {}", serialNumber);
+                    } else {
+                        log.error("PING 전송 실패: {}", serialNumber);
                     }
-                    log.debug("PING 전송: {}", serialNumber);
-                } catch (IOException e) {
-                    log.error("PING 전송 실패: {}", serialNumber, e);
-                }
+                });
             }
         });
     }
 
+    private void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.NORMAL);
+        } catch (Exception e) {
+            log.debug("이전 세션 종료 실패: {}", session.getId(), e);
+        }
+    }
+
     private String getSerialNumberFromSession(WebSocketSession session) {
+        String serialNumber = getQueryParam(session, "serial");
+        if (serialNumber == null) {
+            log.warn("Serial Number를 찾을 수 없습니다");
+        }
+        return serialNumber;
+    }
+
+    private String getQueryParam(WebSocketSession session, String name) {
         try {
             String query = session.getUri().getQuery();
-            if (query != null && query.contains("serial=")) {
+            String prefix = name + "=";
+            if (query != null && query.contains(prefix)) {
                 String[] params = query.split("&");
                 for (String param : params) {
-                    if (param.startsWith("serial=")) {
-                        return param.substring(7);
+                    if (param.startsWith(prefix)) {
+                        return param.substring(prefix.length());
                     }
                 }
             }
         } catch (Exception e) {
-            log.error("Serial Number 추출 실패", e);
+            log.error("URI 파라미터 추출 실패: {}", name, e);
         }
-        log.warn("Serial Number를 찾을 수 없습니다");
         return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package mbcpr.server.service;
+
+import jakarta.websocket.Session;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import mbcpr.server.config.BoardLinkProperties;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 보드 한 대의 WebSocket 송신 경로
+ * 전송 직렬화, 송신 버퍼/시간 한도는 ConcurrentWebSocketSessionDecorator 에 맡기고,
+ * 전송이 밀리는 동안 쌓인 PING/CHECK 는 하나로 합친다. START/STOP/EXIT 등 나머지는 순서대로 모두 전송.
+ * 전송은 호출한 스레드에서 이루어지므로 컨테이너의 blocking send 타임아웃도 송신 시간 한도로 맞춘다.
+ */
+@Slf4j
+class BoardLink {
+
+    // Tomcat WsRemoteEndpointImplBase 가 읽는 세션 속성 (ms, Long)
+    private static final String BLOCKING_SEND_TIMEOUT_PROPERTY = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    // 응답만 받으면 되는 메시지 (CHECK 가 대기 중이면 PING 은 불필요)
+    private static final Set<String> COALESCIBLE = Set.of("PING", "CHECK");
+
+    @Getter
+    private final WebSocketSession session;
+    private final String serialNumber;
+    @Getter
+    private final BoardLinkProperties.Limits limits;
+    private final ConcurrentWebSocketSessionDecorator sender;
+
+    // 컨테이너에 넘겨지기 전인 메시지와 그 결과
+    private final Map<WebSocketMessage<?>, CompletableFuture<Boolean>> pending =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    // 대기 중인 PING/CHECK
+    private final Map<String, CompletableFuture<Boolean>> pendingControls = new HashMap<>();
+
+    BoardLink(WebSocketSession session, String serialNumber, BoardLinkProperties.Limits limits) {
+        this.session = session;
+        this.serialNumber = serialNumber;
+        this.limits = limits;
+        applyBlockingSendTimeout(session, limits.getSendTimeLimit());
+        this.sender = new ConcurrentWebSocketSessionDecorator(
+                new TrackingSession(session), limits.getSendTimeLimit(), limits.getSendBufferSizeLimit());
+    }
+
+    /**
+     * 메시지 전송 요청
+     * 결과는 메시지가 실제로 컨테이너에 전달되면 true, 전송 실패/한도 초과/연결 종료로 버려지면 false.
+     * 다른 스레드가 전송 중이면 큐에만 넣고 완료되지 않은 결과를 바로 반환
+     */
+    CompletableFuture<Boolean> send(String message) {
+        TextMessage textMessage = new TextMessage(message);
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        if (COALESCIBLE.contains(message)) {
+            synchronized (pendingControls) {
+                CompletableFuture<Boolean> existing = pendingControls.get(message);
+                if (existing == null) {
+                    existing = pendingControls.get("CHECK");
+                }
+                if (existing != null) {
+                    log.debug("대기 중인 메시지와 병합: {} [{}]", message, serialNumber);
+                    return existing;
+                }
+                pendingControls.put(message, result);
+            }
+            result.whenComplete((sent, e) -> {
+                synchronized (pendingControls) {
+                    pendingControls.remove(message, result);
+                }
+            });
+        }
+
+        pending.put(textMessage, result);
+        result.whenComplete((sent, e) -> pending.remove(textMessage));
+
+        try {
+            sender.sendMessage(textMessage);
+        } catch (SessionLimitExceededException e) {
+            log.warn("송신 한도 초과로 연결 종료: {} [{}] ({})", message, serialNumber, e.getMessage());
+            terminate(e.getStatus());
+        } catch (IOException e) {
+            log.error("메시지 전송 실패: {} [{}]", message, serialNumber, e);
+            terminate(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (RuntimeException e) {
+            // 확인 직후 세션이 닫힌 경우 등 (Tomcat IllegalStateException)
+            log.warn("메시지 전송 실패: {} [{}] ({})", message, serialNumber, e.getMessage());
+            result.complete(false);
+        }
+
+        // 종료 중이라 큐에 들어가지 못한 메시지
+        if (!session.isOpen()) {
+            failPending();
+        }
+        return result;
+    }
+
+    /**
+     * 전송 결과를 송신 시간 한도만큼 기다림
+     */
+    boolean sendAndWait(String message) {
+        try {
+            return send(message).get(limits.getSendTimeLimit(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("전송 완료 대기 시간 초과: {} [{}]", message, serialNumber);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 연결 종료 시 호출, 아직 전송되지 않은 메시지는 실패 처리
+     */
+    void close() {
+        failPending();
+    }
+
+    // 아무 스레드도 전송 중이 아니면 호출 스레드가 직접 쓰므로, 막힌 링크에서도 송신 시간 한도 안에 반환되도록 함
+    private static void applyBlockingSendTimeout(WebSocketSession session, int sendTimeLimit) {
+        if (session instanceof NativeWebSocketSession nativeWebSocketSession) {
+            Session nativeSession = nativeWebSocketSession.getNativeSession(Session.class);
+            if (nativeSession != null) {
+                nativeSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT_PROPERTY, (long) sendTimeLimit);
+            }
+        }
+    }
+
+    private void terminate(CloseStatus status) {
+        try {
+            sender.close(status);
+        } catch (Exception e) {
+            log.debug("연결 종료 실패: {}", serialNumber, e);
+        }
+        failPending();
+    }
+
+    private void failPending() {
+        List<CompletableFuture<Boolean>> results;
+        synchronized (pending) {
+            results = new ArrayList<>(pending.values());
+        }
+        results.forEach(result -> result.complete(false));
+    }
+
+    // 컨테이너에 실제로 전달된 메시지를 확인하기 위한 세션 래퍼
+    private class TrackingSession extends WebSocketSessionDecorator {
+
+        TrackingSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            CompletableFuture<Boolean> result = pending.get(message);
+            try {
+                super.sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                if (result != null) {
+                    result.complete(false);
+                }
+                throw e;
+            }
+            if (result != null) {
+                result.complete(true);
+            }
+        }
+    }
+}
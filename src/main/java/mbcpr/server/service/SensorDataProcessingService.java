@@ -20,6 +20,7 @@ public class SensorDataProcessingService {
     private final Map<String, Long> lastCompressionTime = new ConcurrentHashMap<>();
     private final Map<String, LinkedList<Double>> pressureWindow = new ConcurrentHashMap<>();
     private final Map<String, LinkedList<Integer>> bpmHistory = new ConcurrentHashMap<>();
+    private final Map<String, Long> suspendedAt = new ConcurrentHashMap<>(); // 보드 연결이 끊긴 시각
 
     private static final int WINDOW_SIZE = 3;
     private static final double MIN_VALID_PRESSURE = 5.0;
@@ -114,10 +115,37 @@ public class SensorDataProcessingService {
     }
 
     public void stopProcessing(String serialNumber) {
-        activeProcessing.put(serialNumber, false);
+        activeProcessing.remove(serialNumber);
         pressureWindow.remove(serialNumber);
         lastCompressionTime.remove(serialNumber);
         bpmHistory.remove(serialNumber); // [추가] 통신 종료 시 기록 삭제
+        suspendedAt.remove(serialNumber);
+    }
+
+    /**
+     * 보드 연결이 잠시 끊겼을 때 호출
+     * BPM 기록은 유지하고, 끊기기 전 압력 샘플은 재연결 후 샘플과 이어지지 않도록 비움
+     */
+    public void suspendProcessing(String serialNumber) {
+        if (!isProcessingActive(serialNumber)) return;
+        suspendedAt.put(serialNumber, System.currentTimeMillis());
+        pressureWindow.remove(serialNumber);
+    }
+
+    /**
+     * 유예 시간 안에 재연결되었을 때 호출
+     * 끊겨 있던 시간만큼 마지막 압박 시각을 옮겨 재연결 직후 BPM 이 낮게 계산되지 않도록 함
+     */
+    public void resumeProcessing(String serialNumber) {
+        Long since = suspendedAt.remove(serialNumber);
+        if (since == null) return;
+        long gap = System.currentTimeMillis() - since;
+        lastCompressionTime.computeIfPresent(serialNumber, (k, time) -> time + gap);
+    }
+
+    // 진행 중이던 통신이 보드 연결 끊김으로 멈춰 있는지 여부
+    public boolean isProcessingSuspended(String serialNumber) {
+        return suspendedAt.containsKey(serialNumber);
     }
 
     public boolean isProcessingActive(String serialNumber) {
@@ -0,0 +1,58 @@
+package mbcpr.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerMessageDeflateUpgradeStrategyTest {
+
+    private PerMessageDeflateUpgradeStrategy strategy(boolean enabled, boolean serverNoTakeover, boolean clientNoTakeover) {
+        BoardLinkProperties.Deflate deflate = new BoardLinkProperties.Deflate();
+        deflate.setEnabled(enabled);
+        deflate.setServerNoContextTakeover(serverNoTakeover);
+        deflate.setClientNoContextTakeover(clientNoTakeover);
+        return new PerMessageDeflateUpgradeStrategy(deflate);
+    }
+
+    @Test
+    void keepsOfferUnchangedByDefault() {
+        assertThat(strategy(true, false, false).rewriteExtensions("permessage-deflate; client_max_window_bits"))
+                .isEqualTo("permessage-deflate; client_max_window_bits");
+    }
+
+    @Test
+    void removesDeflateOfferWhenDisabled() {
+        assertThat(strategy(false, false, false)
+                .rewriteExtensions("permessage-deflate; client_max_window_bits, x-webkit-deflate-frame"))
+                .isEqualTo("x-webkit-deflate-frame");
+        assertThat(strategy(false, false, false).rewriteExtensions("permessage-deflate")).isEmpty();
+    }
+
+    @Test
+    void addsServerNoContextTakeover() {
+        assertThat(strategy(true, true, false).rewriteExtensions("permessage-deflate"))
+                .isEqualTo("permessage-deflate; " + PerMessageDeflateUpgradeStrategy.SERVER_NO_CONTEXT_TAKEOVER);
+    }
+
+    @Test
+    void addsClientNoContextTakeover() {
+        assertThat(strategy(true, false, true).rewriteExtensions("permessage-deflate; client_max_window_bits"))
+                .isEqualTo("permessage-deflate; client_max_window_bits; "
+                        + PerMessageDeflateUpgradeStrategy.CLIENT_NO_CONTEXT_TAKEOVER);
+    }
+
+    @Test
+    void doesNotAddParameterTwice() {
+        assertThat(strategy(true, true, true)
+                .rewriteExtensions("permessage-deflate; server_no_context_takeover; Client_No_Context_Takeover"))
+                .isEqualTo("permessage-deflate; server_no_context_takeover; Client_No_Context_Takeover");
+    }
+
+    @Test
+    void rewritesEveryDeflateOfferInHeader() {
+        assertThat(strategy(true, true, false)
+                .rewriteExtensions("permessage-deflate; client_max_window_bits, x-custom, permessage-deflate"))
+                .isEqualTo("permessage-deflate; client_max_window_bits; server_no_context_takeover, "
+                        + "x-custom, permessage-deflate; server_no_context_takeover");
+    }
+}
@@ -0,0 +1,129 @@
+package mbcpr.server.service;
+
+import mbcpr.server.config.BoardLinkProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoardCommunicationServiceTest {
+
+    private static final String SERIAL = "S1";
+
+    private SensorDataProcessingService sensorDataProcessingService;
+    private CprCommunicationService cprCommunicationService;
+    private BoardLinkProperties properties;
+    private BoardCommunicationService service;
+
+    @BeforeEach
+    void setUp() {
+        sensorDataProcessingService = mock(SensorDataProcessingService.class);
+        cprCommunicationService = mock(CprCommunicationService.class);
+        properties = new BoardLinkProperties();
+        service = new BoardCommunicationService(sensorDataProcessingService, cprCommunicationService, properties);
+    }
+
+    private WebSocketSession boardSession() {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        when(session.getUri()).thenReturn(URI.create("ws://localhost:8080/board?serial=" + SERIAL));
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    @Test
+    void lateCloseOfReplacedSessionKeepsNewLink() throws Exception {
+        WebSocketSession oldSession = boardSession();
+        WebSocketSession newSession = boardSession();
+
+        service.afterConnectionEstablished(oldSession);
+        service.afterConnectionEstablished(newSession);
+        service.afterConnectionClosed(oldSession, CloseStatus.NORMAL);
+
+        assertThat(service.isBoardConnected(SERIAL)).isTrue();
+        verify(oldSession).close(CloseStatus.NORMAL);
+        verify(sensorDataProcessingService, never()).suspendProcessing(any());
+    }
+
+    @Test
+    void reattachRestartsActiveRun() throws Exception {
+        when(sensorDataProcessingService.isProcessingActive(SERIAL)).thenReturn(true);
+        WebSocketSession dropped = boardSession();
+        WebSocketSession reconnected = boardSession();
+
+        service.afterConnectionEstablished(dropped);
+        service.afterConnectionClosed(dropped, CloseStatus.GOING_AWAY);
+        service.afterConnectionEstablished(reconnected);
+
+        verify(sensorDataProcessingService).suspendProcessing(SERIAL);
+        verify(sensorDataProcessingService).resumeProcessing(SERIAL);
+        verify(reconnected).sendMessage(new TextMessage("START"));
+    }
+
+    @Test
+    void reattachWithoutActiveRunDoesNotSendStart() throws Exception {
+        WebSocketSession dropped = boardSession();
+        WebSocketSession reconnected = boardSession();
+
+        service.afterConnectionEstablished(dropped);
+        service.afterConnectionClosed(dropped, CloseStatus.GOING_AWAY);
+        service.afterConnectionEstablished(reconnected);
+
+        verify(sensorDataProcessingService, never()).resumeProcessing(any());
+        verify(reconnected, never()).sendMessage(new TextMessage("START"));
+    }
+
+    @Test
+    void sweepKeepsStateWithinGracePeriod() throws Exception {
+        properties.setReconnectGracePeriod(Duration.ofSeconds(10));
+        WebSocketSession dropped = boardSession();
+
+        service.afterConnectionEstablished(dropped);
+        service.afterConnectionClosed(dropped, CloseStatus.GOING_AWAY);
+        service.sweepExpiredSessions();
+
+        verify(sensorDataProcessingService, never()).stopProcessing(any());
+        verify(cprCommunicationService, never()).closeEmitter(any());
+    }
+
+    @Test
+    void sweepReleasesInterruptedRunAfterGracePeriod() throws Exception {
+        properties.setReconnectGracePeriod(Duration.ZERO);
+        when(sensorDataProcessingService.isProcessingSuspended(SERIAL)).thenReturn(true);
+        WebSocketSession dropped = boardSession();
+
+        service.afterConnectionEstablished(dropped);
+        service.afterConnectionClosed(dropped, CloseStatus.GOING_AWAY);
+        Thread.sleep(10);
+        service.sweepExpiredSessions();
+
+        verify(sensorDataProcessingService).stopProcessing(SERIAL);
+        verify(cprCommunicationService).closeEmitter(SERIAL);
+    }
+
+    @Test
+    void sweepKeepsEmitterWhenNoRunWasInterrupted() throws Exception {
+        properties.setReconnectGracePeriod(Duration.ZERO);
+        WebSocketSession dropped = boardSession();
+
+        service.afterConnectionEstablished(dropped);
+        service.afterConnectionClosed(dropped, CloseStatus.GOING_AWAY);
+        Thread.sleep(10);
+        service.sweepExpiredSessions();
+
+        verify(sensorDataProcessingService).stopProcessing(SERIAL);
+        verify(cprCommunicationService, never()).closeEmitter(any());
+    }
+}
@@ -0,0 +1,165 @@
+package mbcpr.server.service;
+
+import mbcpr.server.config.BoardLinkProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoardLinkTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        // 첫 전송을 막아 두고 그 사이에 다른 호출자가 보낸 메시지가 쌓이도록 함
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            if (sent.isEmpty()) {
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            }
+            sent.add((String) message.getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstSend.countDown();
+    }
+
+    private BoardLink link(int sendBufferSizeLimit) {
+        BoardLinkProperties.Limits limits = new BoardLinkProperties.Limits();
+        limits.setSendBufferSizeLimit(sendBufferSizeLimit);
+        limits.setSendTimeLimit(60_000);
+        return new BoardLink(session, "S1", limits);
+    }
+
+    private CompletableFuture<Boolean> blockInFirstSend(BoardLink link) throws Exception {
+        CompletableFuture<CompletableFuture<Boolean>> first = CompletableFuture.supplyAsync(() -> link.send("CONNECTED"));
+        assertThat(firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return first.thenCompose(result -> result);
+    }
+
+    @Test
+    void sendsImmediatelyWithoutContention() throws Exception {
+        releaseFirstSend.countDown();
+        BoardLink link = link(8192);
+
+        assertThat(link.send("START").get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("START");
+    }
+
+    @Test
+    void coalescesQueuedPingAndCheck() throws Exception {
+        BoardLink link = link(8192);
+        CompletableFuture<Boolean> connected = blockInFirstSend(link);
+
+        CompletableFuture<Boolean> ping = link.send("PING");
+        CompletableFuture<Boolean> secondPing = link.send("PING");
+        CompletableFuture<Boolean> check = link.send("CHECK");
+        CompletableFuture<Boolean> secondCheck = link.send("CHECK");
+
+        assertThat(secondPing).isSameAs(ping);
+        assertThat(secondCheck).isSameAs(check);
+
+        releaseFirstSend.countDown();
+        assertThat(connected.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ping.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(check.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("CONNECTED", "PING", "CHECK");
+    }
+
+    @Test
+    void pingMergesIntoPendingCheck() throws Exception {
+        BoardLink link = link(8192);
+        CompletableFuture<Boolean> connected = blockInFirstSend(link);
+
+        CompletableFuture<Boolean> check = link.send("CHECK");
+        assertThat(link.send("PING")).isSameAs(check);
+
+        releaseFirstSend.countDown();
+        assertThat(connected.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(check.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("CONNECTED", "CHECK");
+    }
+
+    @Test
+    void keepsOrderOfCommandsFromConcurrentCallers() throws Exception {
+        BoardLink link = link(8192);
+        CompletableFuture<Boolean> connected = blockInFirstSend(link);
+
+        CompletableFuture<Boolean> start = link.send("START");
+        CompletableFuture<Boolean> stop = link.send("STOP");
+        CompletableFuture<Boolean> exit = link.send("EXIT");
+        assertThat(start).isNotDone();
+
+        releaseFirstSend.countDown();
+        assertThat(connected.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(start.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stop.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(exit.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("CONNECTED", "START", "STOP", "EXIT");
+    }
+
+    @Test
+    void terminatesSessionWhenSendBufferOverflows() throws Exception {
+        // 전송 중인 CONNECTED 는 버퍼에서 빠진 상태, 대기 중인 START(5) 까지 허용하고 STOP(4) 에서 한도 초과
+        BoardLink link = link(8);
+        CompletableFuture<Boolean> connected = blockInFirstSend(link);
+
+        CompletableFuture<Boolean> start = link.send("START");
+        CompletableFuture<Boolean> stop = link.send("STOP");
+
+        assertThat(stop.get(1, TimeUnit.SECONDS)).isFalse();
+        assertThat(start.get(1, TimeUnit.SECONDS)).isFalse();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        releaseFirstSend.countDown();
+        // 종료 시점에 쓰는 중이던 CONNECTED 도 전달이 확인되지 않은 것으로 처리
+        assertThat(connected.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(sent).containsExactly("CONNECTED");
+    }
+
+    @Test
+    void failsPendingMessagesWhenClosed() throws Exception {
+        BoardLink link = link(8192);
+        blockInFirstSend(link);
+
+        CompletableFuture<Boolean> start = link.send("START");
+        link.close();
+
+        assertThat(start.get(1, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void completesWithFalseWhenSessionClosesDuringSend() throws Exception {
+        doThrow(new IllegalStateException("closed")).when(session).sendMessage(any());
+        BoardLink link = link(8192);
+
+        assertThat(link.send("PING").get(1, TimeUnit.SECONDS)).isFalse();
+    }
+}
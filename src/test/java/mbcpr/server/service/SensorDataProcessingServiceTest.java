@@ -0,0 +1,66 @@
+package mbcpr.server.service;
+
+import mbcpr.server.dto.ProcessedSensorData;
+import mbcpr.server.dto.SensorData;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SensorDataProcessingServiceTest {
+
+    private static final String SERIAL = "S1";
+
+    private final CprCommunicationService cprCommunicationService = mock(CprCommunicationService.class);
+    private final SensorDataProcessingService service = new SensorDataProcessingService(cprCommunicationService);
+
+    // 0 → 20 → 0 순서로 넣어 압박 피크 한 번을 만듦
+    private void compress() {
+        for (double pressure : new double[]{0, 20, 0}) {
+            service.processSensorData(new SensorData(SERIAL, pressure, System.currentTimeMillis()));
+        }
+    }
+
+    @Test
+    void resumeExcludesDisconnectGapFromBpm() throws Exception {
+        service.startProcessing(SERIAL);
+        service.suspendProcessing(SERIAL);
+        assertThat(service.isProcessingSuspended(SERIAL)).isTrue();
+        Thread.sleep(1000);
+        service.resumeProcessing(SERIAL);
+        Thread.sleep(500);
+
+        compress();
+
+        // 끊겨 있던 1초를 빼면 간격은 약 500ms (120 BPM), 빼지 않으면 약 1500ms (40 BPM)
+        ArgumentCaptor<ProcessedSensorData> captor = ArgumentCaptor.forClass(ProcessedSensorData.class);
+        verify(cprCommunicationService).sendProcessedData(eq(SERIAL), captor.capture());
+        assertThat(captor.getValue().compressionRate()).isGreaterThan(90);
+        assertThat(service.isProcessingSuspended(SERIAL)).isFalse();
+    }
+
+    @Test
+    void suspendIsIgnoredWithoutActiveRun() {
+        service.suspendProcessing(SERIAL);
+
+        assertThat(service.isProcessingSuspended(SERIAL)).isFalse();
+    }
+
+    @Test
+    void stopReleasesSuspendedState() {
+        service.startProcessing(SERIAL);
+        service.suspendProcessing(SERIAL);
+
+        service.stopProcessing(SERIAL);
+        compress();
+
+        assertThat(service.isProcessingActive(SERIAL)).isFalse();
+        assertThat(service.isProcessingSuspended(SERIAL)).isFalse();
+        verify(cprCommunicationService, never()).sendProcessedData(any(), any());
+    }
+}